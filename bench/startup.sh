@@ -0,0 +1,50 @@
+#!/usr/bin/env bash
+# Measures time to first successful request and resident memory of standalone jar.
+# Usage: bench/startup.sh [runs], JAVA_OPTS overrides default startup flags,
+# TIMEOUT limits seconds to wait for the first request of a run.
+set -euo pipefail
+
+RUNS=${1:-5}
+PORT=${PORT:-18081}
+TIMEOUT=${TIMEOUT:-60}
+DIR=$(cd "$(dirname "$0")/.." && pwd)
+JAR=${JAR:-$DIR/target/transferrer-1.0.0-all.jar}
+JSA=${JSA:-$DIR/target/transferrer-1.0.0.jsa}
+# must be the same java which dumped the archive
+JAVA=${JAVA:-java}
+
+if [ -z "${JAVA_OPTS+x}" ]; then
+    JAVA_OPTS="-XX:TieredStopAtLevel=1 -XX:+UseSerialGC -Xss512k -Xmx128m"
+    if [ -f "$JSA" ]; then
+        JAVA_OPTS="$JAVA_OPTS -XX:SharedArchiveFile=$JSA"
+    else
+        echo "WARNING: $JSA not found, running without class data sharing (build with mvn package -Pstandalone,startup on JDK 13+)" >&2
+    fi
+fi
+echo "JAVA_OPTS: $JAVA_OPTS"
+
+for run in $(seq 1 "$RUNS"); do
+    start=$(date +%s%N)
+    "$JAVA" $JAVA_OPTS -jar "$JAR" --port "$PORT" --warm-up > /dev/null 2>&1 &
+    pid=$!
+    deadline=$(( start + TIMEOUT * 1000000000 ))
+    until curl -sf -o /dev/null "http://localhost:$PORT/api/accounts/"; do
+        if ! kill -0 "$pid" 2> /dev/null; then
+            wait "$pid" && status=0 || status=$?
+            echo "run $run: java exited with status $status before first request" >&2
+            exit 1
+        fi
+        if [ "$(date +%s%N)" -gt "$deadline" ]; then
+            echo "run $run: no successful request in $TIMEOUT s" >&2
+            kill "$pid"
+            wait "$pid" 2> /dev/null || true
+            exit 1
+        fi
+        sleep 0.01
+    done
+    end=$(date +%s%N)
+    rss=$(awk '/VmRSS/ {print $2}' "/proc/$pid/status")
+    echo "run $run: time-to-first-request $(( (end - start) / 1000000 )) ms, rss $(( rss / 1024 )) MB"
+    kill "$pid"
+    wait "$pid" 2> /dev/null || true
+done
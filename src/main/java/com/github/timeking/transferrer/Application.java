@@ -18,10 +18,30 @@ public class Application {
     @Parameter(names = {"--context-path", "-c"}, description = "Context path")
     private String contextPath = "/api";
 
+    @Parameter(names = {"--expected-accounts"}, description = "Number of accounts to pre-size storage for")
+    private int expectedAccounts = 16;
+
+    @Parameter(names = {"--import-file"}, description = "CSV (.csv) or NDJSON file with accounts to import on start")
+    private String importFile;
+
+    @Parameter(names = {"--feed-capacity"}, description = "Number of latest balance changes kept for feed consumers")
+    private int feedCapacity = 1 << 16;
+
+    @Parameter(names = {"--trace-sample-rate"}, description = "Share of transfers to trace, from 0 to 1")
+    private double traceSampleRate = 0.01;
+
+    @Parameter(names = {"--slow-transfer-millis"}, description = "Latency from which traced transfer is reported as slow")
+    private long slowTransferMillis = 100;
+
+    @Parameter(names = {"--warm-up"}, description = "Warm up JSON and STM paths right after server is started")
+    private boolean warmUp = false;
+
+    @Parameter(names = {"--exit-after-warm-up"}, description = "Stop server right after warm up, used to dump class data sharing archive")
+    private boolean exitAfterWarmUp = false;
+
     public static void main(String[] args) {
         Application application = new Application();
         JCommander jCommander = JCommander.newBuilder()
-                .args(args)
                 .addObject(application)
                 .build();
 
@@ -39,6 +59,12 @@ public class Application {
         }
 
         Server server = new Server(application);
+        if (application.isWarmUp() || application.isExitAfterWarmUp()) {
+            new WarmUp(application, server.getObjectMapper()).run();
+        }
+        if (application.isExitAfterWarmUp()) {
+            server.stop();
+        }
         try {
             server.awaitForShutdown();
         } catch (InterruptedException e) {
@@ -1,35 +1,93 @@
 package com.github.timeking.transferrer;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.timeking.transferrer.controller.AccountBulkController;
 import com.github.timeking.transferrer.controller.AccountController;
 import com.github.timeking.transferrer.controller.AccountManager;
+import com.github.timeking.transferrer.controller.BalanceFeedController;
+import com.github.timeking.transferrer.controller.BulkFormat;
+import com.github.timeking.transferrer.controller.DiagnosticsController;
 import com.github.timeking.transferrer.controller.TransferController;
+import com.github.timeking.transferrer.diagnostics.TransferTracer;
+import com.github.timeking.transferrer.dto.JsonMapper;
+import com.github.timeking.transferrer.feed.BalanceFeed;
+import com.github.timeking.transferrer.feed.BalanceFeedStreamer;
+import com.github.timeking.transferrer.scheduler.TimingWheelScheduler;
 import io.javalin.Javalin;
 import io.javalin.JavalinEvent;
 import io.javalin.apibuilder.ApiBuilder;
+import io.javalin.json.JavalinJackson;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ForkJoinPool;
 
 public class Server {
-    private final AccountManager accountManager = new AccountManager();
-    private final AccountController accountController = new AccountController(accountManager);
-    private final TransferController transferController = new TransferController(accountManager);
+    private final ObjectMapper objectMapper = JsonMapper.create();
+    private final AccountManager accountManager;
+    private final AccountController accountController;
+    private final AccountBulkController accountBulkController;
+    private final TimingWheelScheduler scheduler = new TimingWheelScheduler(10, 64, 100, ForkJoinPool.commonPool());
+    private final TransferController transferController;
+    private final DiagnosticsController diagnosticsController;
+    private final BalanceFeedStreamer balanceFeedStreamer;
+    private final BalanceFeedController balanceFeedController;
 
     private final CountDownLatch shutdownLatch = new CountDownLatch(1);
+    private final Javalin app;
 
     public Server(Application application) {
-        Javalin app = Javalin.create()
+        BalanceFeed balanceFeed = new BalanceFeed(application.getFeedCapacity());
+        accountManager = new AccountManager(application.getExpectedAccounts(), balanceFeed);
+        accountController = new AccountController(accountManager);
+        accountBulkController = new AccountBulkController(accountManager, objectMapper);
+        TransferTracer tracer = new TransferTracer(application.getTraceSampleRate(), application.getSlowTransferMillis());
+        transferController = new TransferController(accountManager, scheduler, objectMapper, tracer);
+        diagnosticsController = new DiagnosticsController(tracer);
+        balanceFeedStreamer = new BalanceFeedStreamer(balanceFeed, objectMapper);
+        balanceFeedController = new BalanceFeedController(balanceFeed, balanceFeedStreamer);
+
+        if (application.getImportFile() != null) {
+            try (BufferedReader reader = Files.newBufferedReader(Paths.get(application.getImportFile()))) {
+                accountBulkController.importFrom(reader, BulkFormat.of(application.getImportFile()));
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to import " + application.getImportFile(), e);
+            }
+        }
+
+        JavalinJackson.configure(objectMapper);
+
+        app = Javalin.create()
                 .port(application.getPort())
                 .contextPath(application.getContextPath())
                 .defaultContentType("application/json")
+                .event(JavalinEvent.SERVER_STOPPING, balanceFeedStreamer::close)
+                .event(JavalinEvent.SERVER_STOPPED, scheduler::close)
                 .event(JavalinEvent.SERVER_STOPPED, shutdownLatch::countDown)
                 .start();
 
         app.routes(() -> {
+            ApiBuilder.get("/bulk/accounts", accountBulkController::exportAccounts);
+            ApiBuilder.post("/bulk/accounts", accountBulkController::importAccounts);
+            ApiBuilder.get("/diagnostics/slow-transfers", diagnosticsController::slowTransfers);
+            ApiBuilder.get("/feed/balances", balanceFeedController::stream);
             ApiBuilder.crud("/accounts/:account-id", accountController);
             ApiBuilder.crud("/transfers/:transfer-id", transferController);
         });
     }
 
+    public ObjectMapper getObjectMapper() {
+        return objectMapper;
+    }
+
+    public void stop() {
+        app.stop();
+    }
+
     public void awaitForShutdown() throws InterruptedException {
         shutdownLatch.await();
     }
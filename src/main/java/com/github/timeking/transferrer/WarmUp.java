@@ -0,0 +1,103 @@
+package com.github.timeking.transferrer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.timeking.transferrer.dto.AccountDto;
+import com.github.timeking.transferrer.dto.BalanceChangeDto;
+import com.github.timeking.transferrer.dto.BulkResultDto;
+import com.github.timeking.transferrer.dto.TransferDto;
+import com.github.timeking.transferrer.dto.TransferLegDto;
+import com.github.timeking.transferrer.dto.TransferState;
+import com.github.timeking.transferrer.model.Account;
+import com.github.timeking.transferrer.model.TransferLeg;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.UUID;
+
+/**
+ * Touches STM, JSON and routing paths of just started server, so classes are loaded
+ * (and could be dumped to class data sharing archive) and serializers are built before
+ * the first real request. Nothing here changes any state.
+ */
+@Slf4j
+class WarmUp {
+    private final String baseUrl;
+    private final ObjectMapper objectMapper;
+
+    WarmUp(Application application, ObjectMapper objectMapper) {
+        this.baseUrl = "http://localhost:" + application.getPort() + application.getContextPath();
+        this.objectMapper = objectMapper;
+    }
+
+    void run() {
+        long start = System.currentTimeMillis();
+        Account from = new Account(2);
+        Account to = new Account(0);
+        from.transferTo(to, 1);
+        Account.transferAll(Collections.singletonList(new TransferLeg(from, to, 1)));
+
+        try {
+            warmUpJson();
+            request("GET", "/accounts/", null);
+            request("GET", "/accounts/" + UUID.randomUUID(), null);
+            request("GET", "/transfers/", null);
+            // transfer without accounts is parsed and rejected
+            request("POST", "/transfers/", "{\"amount\":0,\"executeAt\":\"1970-01-01T00:00:00Z\",\"legs\":[]}");
+        } catch (IOException e) {
+            log.warn("Warm up request failed: " + e.getMessage(), e);
+        }
+        log.info("Warm up is done in {} ms", System.currentTimeMillis() - start);
+    }
+
+    /**
+     * Serializes and parses back every DTO, so the same mapper Javalin uses has them cached
+     */
+    private void warmUpJson() throws IOException {
+        UUID accountId = UUID.randomUUID();
+        Instant now = Instant.now();
+        AccountDto accountDto = AccountDto.from(accountId, new Account(1));
+        TransferDto transferDto = TransferDto.builder()
+                .transferId(UUID.randomUUID())
+                .date(now)
+                .accountFrom(accountId)
+                .accountTo(accountId)
+                .amount(1)
+                .state(TransferState.SUBMITTED)
+                .executeAt(now)
+                .legs(Collections.singletonList(TransferLegDto.builder()
+                        .accountFrom(accountId)
+                        .accountTo(accountId)
+                        .amount(1)
+                        .build()))
+                .build();
+        objectMapper.readValue(objectMapper.writeValueAsBytes(accountDto), AccountDto.class);
+        objectMapper.readValue(objectMapper.writeValueAsBytes(transferDto), TransferDto.class);
+        objectMapper.writeValueAsBytes(Collections.singletonList(accountDto));
+        objectMapper.writeValueAsBytes(Collections.singletonList(transferDto));
+        objectMapper.writeValueAsBytes(BalanceChangeDto.builder().accountId(accountId).date(now).build());
+        objectMapper.writeValueAsBytes(BulkResultDto.of(1, 0, 1));
+    }
+
+    private int request(String method, String path, String body) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) new URL(baseUrl + path).openConnection();
+        try {
+            connection.setRequestMethod(method);
+            if (body != null) {
+                connection.setDoOutput(true);
+                connection.setRequestProperty("Content-Type", "application/json");
+                try (OutputStream out = connection.getOutputStream()) {
+                    out.write(body.getBytes(StandardCharsets.UTF_8));
+                }
+            }
+            return connection.getResponseCode();
+        } finally {
+            connection.disconnect();
+        }
+    }
+}
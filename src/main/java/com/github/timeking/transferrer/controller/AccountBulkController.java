@@ -0,0 +1,175 @@
+package com.github.timeking.transferrer.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.timeking.transferrer.dto.AccountDto;
+import com.github.timeking.transferrer.dto.BulkResultDto;
+import io.javalin.Context;
+import lombok.extern.slf4j.Slf4j;
+import org.eclipse.jetty.http.HttpStatus;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Streams accounts in and out line by line, import registers accounts by parallel chunks
+ */
+@Slf4j
+public class AccountBulkController {
+    private static final int CHUNK_SIZE = 10_000;
+    private static final String CSV_HEADER = "accountId";
+    private static final String SUMMARY_PREFIX = "#";
+
+    private final AccountManager accountManager;
+    private final ObjectMapper objectMapper;
+
+    public AccountBulkController(AccountManager accountManager, ObjectMapper objectMapper) {
+        this.accountManager = accountManager;
+        this.objectMapper = objectMapper;
+    }
+
+    public void importAccounts(@NotNull Context ctx) throws IOException {
+        BulkFormat format = BulkFormat.of(ctx.queryParam("format"));
+        BufferedReader reader = new BufferedReader(Channels.newReader(
+                Channels.newChannel(ctx.req.getInputStream()), StandardCharsets.UTF_8.newDecoder(), -1));
+        ctx.json(importFrom(reader, format));
+        ctx.status(HttpStatus.OK_200);
+    }
+
+    public void exportAccounts(@NotNull Context ctx) throws IOException {
+        BulkFormat format = BulkFormat.of(ctx.queryParam("format"));
+        ctx.status(HttpStatus.OK_200);
+        ctx.res.setContentType(format.getContentType());
+        Writer writer = new BufferedWriter(Channels.newWriter(
+                Channels.newChannel(ctx.res.getOutputStream()), StandardCharsets.UTF_8.newEncoder(), -1));
+        exportTo(writer, format);
+    }
+
+    /**
+     * Registers accounts read from given reader, rows which could not be parsed are rejected
+     */
+    public BulkResultDto importFrom(BufferedReader reader, BulkFormat format) throws IOException {
+        long start = System.nanoTime();
+        AtomicLong rows = new AtomicLong();
+        AtomicLong rejected = new AtomicLong();
+        // limits chunks in flight, so reader does not run far ahead of registration
+        int maxInFlight = ForkJoinPool.getCommonPoolParallelism() * 2;
+        Semaphore inFlight = new Semaphore(maxInFlight);
+
+        List<String> chunk = new ArrayList<>(CHUNK_SIZE);
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (line.isEmpty() || line.startsWith(SUMMARY_PREFIX)
+                    || (format == BulkFormat.CSV && line.startsWith(CSV_HEADER))) {
+                continue;
+            }
+            chunk.add(line);
+            if (chunk.size() == CHUNK_SIZE) {
+                submit(chunk, format, inFlight, rows, rejected);
+                chunk = new ArrayList<>(CHUNK_SIZE);
+            }
+        }
+        if (!chunk.isEmpty()) {
+            submit(chunk, format, inFlight, rows, rejected);
+        }
+        inFlight.acquireUninterruptibly(maxInFlight);
+        inFlight.release(maxInFlight);
+
+        BulkResultDto result = BulkResultDto.of(rows.get(), rejected.get(), System.nanoTime() - start);
+        log.info("Imported {} accounts, rejected {}, {} rows/s", result.getRows(), result.getRejected(), result.getRowsPerSecond());
+        return result;
+    }
+
+    private void submit(List<String> chunk, BulkFormat format, Semaphore inFlight, AtomicLong rows, AtomicLong rejected) {
+        inFlight.acquireUninterruptibly();
+        CompletableFuture.runAsync(() -> {
+            for (String line : chunk) {
+                try {
+                    AccountDto accountDto = parse(line, format);
+                    if (accountDto == null) {
+                        rejected.incrementAndGet();
+                        continue;
+                    }
+                    UUID accountId = accountDto.getAccountId() == null ? UUID.randomUUID() : accountDto.getAccountId();
+                    if (accountManager.register(accountId, accountDto.getBalance(), accountDto.getLastModified())) {
+                        rows.incrementAndGet();
+                    } else {
+                        rejected.incrementAndGet();
+                    }
+                } catch (IOException | RuntimeException e) {
+                    // any broken row is rejected alone, the rest of chunk is still imported
+                    rejected.incrementAndGet();
+                }
+            }
+        }).whenComplete((v, ex) -> {
+            inFlight.release();
+            if (ex != null) {
+                log.error("Failed to import chunk: " + ex.getMessage(), ex);
+            }
+        });
+    }
+
+    private AccountDto parse(String line, BulkFormat format) throws IOException {
+        if (format == BulkFormat.NDJSON) {
+            return objectMapper.readValue(line, AccountDto.class);
+        }
+        String[] columns = line.split(",", -1);
+        return AccountDto.builder()
+                .accountId(columns[0].trim().isEmpty() ? null : UUID.fromString(columns[0].trim()))
+                .balance(Integer.parseInt(columns[1].trim()))
+                .lastModified(columns.length > 2 && !columns[2].trim().isEmpty() ? Instant.parse(columns[2].trim()) : null)
+                .build();
+    }
+
+    /**
+     * Writes accounts while iterating them without copying the book, the last line is summary
+     * starting with {@code #}, which import skips.
+     * Export is not consistent snapshot: accounts registered or removed during export may or may not be included,
+     * balances are read one by one, so money of transfer committed meanwhile may be counted twice or not at all
+     */
+    public BulkResultDto exportTo(Writer writer, BulkFormat format) throws IOException {
+        long start = System.nanoTime();
+        AtomicLong rows = new AtomicLong();
+        if (format == BulkFormat.CSV) {
+            writer.write(CSV_HEADER + ",balance,lastModified\n");
+        }
+        try {
+            accountManager.forEach((accountId, account) -> {
+                AccountDto accountDto = AccountDto.from(accountId, account);
+                try {
+                    if (format == BulkFormat.NDJSON) {
+                        writer.write(objectMapper.writeValueAsString(accountDto));
+                    } else {
+                        writer.write(accountDto.getAccountId() + "," + accountDto.getBalance() + "," + accountDto.getLastModified());
+                    }
+                    writer.write('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                rows.incrementAndGet();
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+
+        BulkResultDto result = BulkResultDto.of(rows.get(), 0, System.nanoTime() - start);
+        writer.write(SUMMARY_PREFIX + " rows=" + result.getRows() + " millis=" + result.getMillis()
+                + " rowsPerSecond=" + result.getRowsPerSecond() + "\n");
+        writer.flush();
+        log.info("Exported {} accounts, {} rows/s", result.getRows(), result.getRowsPerSecond());
+        return result;
+    }
+}
@@ -62,11 +62,15 @@ public class AccountController implements CrudHandler {
         }
         Optional<Account> optAccount = accountManager.get(accountId);
         ctx.status(HttpStatus.NOT_FOUND_404);
-        optAccount
-                .map(account -> AccountDto.from(accountId, account))
-                .ifPresent(account -> {
-                    ctx.json(account).status(HttpStatus.OK_200);
-                });
+        optAccount.ifPresent(account -> {
+            String etag = ETags.of(account);
+            ctx.header(ETags.ETAG, etag);
+            if (ETags.matches(ctx.header(ETags.IF_NONE_MATCH), etag)) {
+                ctx.status(HttpStatus.NOT_MODIFIED_304);
+                return;
+            }
+            ctx.json(AccountDto.from(accountId, account)).status(HttpStatus.OK_200);
+        });
     }
 
     @Override
@@ -1,26 +1,79 @@
 package com.github.timeking.transferrer.controller;
 
+import com.github.timeking.transferrer.dto.BalanceChangeType;
+import com.github.timeking.transferrer.dto.TransferLegDto;
+import com.github.timeking.transferrer.feed.BalanceFeed;
 import com.github.timeking.transferrer.model.Account;
+import com.github.timeking.transferrer.model.TransferLeg;
 
+import java.time.Instant;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
 
 public class AccountManager {
-    private final ConcurrentHashMap<UUID, Account> accountMap = new ConcurrentHashMap<>();
+    private static final int DEFAULT_FEED_CAPACITY = 1 << 16;
+
+    private final ConcurrentHashMap<UUID, Account> accountMap;
+    private final BalanceFeed balanceFeed;
+
+    public AccountManager() {
+        this(16);
+    }
+
+    /**
+     * @param expectedAccounts number of accounts to pre-size storage for
+     */
+    public AccountManager(int expectedAccounts) {
+        this(expectedAccounts, new BalanceFeed(DEFAULT_FEED_CAPACITY));
+    }
+
+    /**
+     * @param expectedAccounts number of accounts to pre-size storage for
+     * @param balanceFeed feed to publish committed balance changes to
+     */
+    public AccountManager(int expectedAccounts, BalanceFeed balanceFeed) {
+        this.accountMap = new ConcurrentHashMap<>(expectedAccounts);
+        this.balanceFeed = balanceFeed;
+    }
 
     /**
      * @return new account with initial balance
      */
     public UUID register(int initialBalance) {
         UUID accountId = UUID.randomUUID();
-        Account account = new Account(initialBalance);
-        accountMap.put(accountId, account);
+        register(accountId, initialBalance, null);
         return accountId;
     }
 
+    /**
+     * Registers account with given uuid and initial balance
+     * @return false if account with such uuid already exists
+     */
+    public boolean register(UUID accountId, int initialBalance) {
+        return register(accountId, initialBalance, null);
+    }
+
+    /**
+     * Registers account with given uuid, initial balance and last modification time
+     * @param lastModified kept as is, current time if null
+     * @return false if account with such uuid already exists
+     */
+    public boolean register(UUID accountId, int initialBalance, Instant lastModified) {
+        long date = lastModified == null ? System.currentTimeMillis() : lastModified.toEpochMilli();
+        Account account = new Account(initialBalance, date, balanceFeed.listenerOf(accountId));
+        // created change is published before account is visible, so it precedes any adjustment
+        return accountMap.computeIfAbsent(accountId, id -> {
+            balanceFeed.publish(id, BalanceChangeType.CREATED, initialBalance, initialBalance, 0, date);
+            return account;
+        }) == account;
+    }
+
     /**
      * Returns optional account by its uuid
      * @return account or empty
@@ -36,17 +89,49 @@ public class AccountManager {
         return new HashMap<>(accountMap);
     }
 
+    /**
+     * Iterates existing accounts without copying them
+     */
+    public void forEach(BiConsumer<UUID, Account> action) {
+        accountMap.forEach(action);
+    }
+
     /**
      * Removes account by uuid
      * @return true if removed
      */
     public boolean delete(UUID accountId) {
-        return accountMap.remove(accountId) != null;
+        boolean[] deleted = {false};
+        accountMap.computeIfPresent(accountId, (id, account) -> {
+            long version = account.close();
+            // balance can not change once account is closed
+            balanceFeed.publish(id, BalanceChangeType.DELETED, 0, account.getBalance(), version, account.getLastModified());
+            deleted[0] = true;
+            return null;
+        });
+        return deleted[0];
     }
 
-    public void transfer(UUID accountIdFrom, UUID accountIdTo, int amount) {
+    /**
+     * @return number of transaction attempts it took to commit
+     */
+    public int transfer(UUID accountIdFrom, UUID accountIdTo, int amount) {
         Account accountFrom = get(accountIdFrom).orElseThrow(() -> new IllegalArgumentException("No account " + accountIdFrom));
         Account accountTo = get(accountIdTo).orElseThrow(() -> new IllegalArgumentException("No account " + accountIdTo));
-        accountFrom.transferTo(accountTo, amount);
+        return accountFrom.transferTo(accountTo, amount);
+    }
+
+    /**
+     * Transfers all legs atomically
+     * @return number of transaction attempts it took to commit
+     */
+    public int transfer(List<TransferLegDto> legs) {
+        List<TransferLeg> accountLegs = new ArrayList<>(legs.size());
+        for (TransferLegDto leg : legs) {
+            Account accountFrom = get(leg.getAccountFrom()).orElseThrow(() -> new IllegalArgumentException("No account " + leg.getAccountFrom()));
+            Account accountTo = get(leg.getAccountTo()).orElseThrow(() -> new IllegalArgumentException("No account " + leg.getAccountTo()));
+            accountLegs.add(new TransferLeg(accountFrom, accountTo, leg.getAmount()));
+        }
+        return Account.transferAll(accountLegs);
     }
 }
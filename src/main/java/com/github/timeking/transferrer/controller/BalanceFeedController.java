@@ -0,0 +1,69 @@
+package com.github.timeking.transferrer.controller;
+
+import com.github.timeking.transferrer.feed.BalanceFeed;
+import com.github.timeking.transferrer.feed.BalanceFeedStreamer;
+import io.javalin.Context;
+import lombok.extern.slf4j.Slf4j;
+import org.eclipse.jetty.http.HttpStatus;
+import org.jetbrains.annotations.NotNull;
+
+import javax.servlet.AsyncContext;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Streams balance changes as NDJSON over chunked response: catches up from given offset
+ * and then tails live changes. Consumer which fell behind the ring gets 410 and should
+ * resync accounts by bulk export.
+ */
+@Slf4j
+public class BalanceFeedController {
+    private final BalanceFeed feed;
+    private final BalanceFeedStreamer streamer;
+
+    public BalanceFeedController(BalanceFeed feed, BalanceFeedStreamer streamer) {
+        this.feed = feed;
+        this.streamer = streamer;
+    }
+
+    public void stream(@NotNull Context ctx) throws IOException {
+        long offset;
+        try {
+            String from = ctx.queryParam("from");
+            offset = from == null ? feed.head() : Long.parseLong(from);
+        } catch (NumberFormatException e) {
+            ctx.status(HttpStatus.BAD_REQUEST_400);
+            return;
+        }
+        if (offset < 0 || offset > feed.head()) {
+            ctx.status(HttpStatus.BAD_REQUEST_400);
+            return;
+        }
+        if (offset < feed.oldest()) {
+            ctx.status(HttpStatus.GONE_410);
+            return;
+        }
+        boolean follow = !"false".equals(ctx.queryParam("follow"));
+
+        ctx.status(HttpStatus.OK_200);
+        ctx.res.setContentType("application/x-ndjson");
+        if (!follow) {
+            OutputStream out = ctx.res.getOutputStream();
+            try {
+                long next;
+                while ((next = streamer.writeAvailable(offset, out)) > offset) {
+                    offset = next;
+                }
+                out.flush();
+            } catch (IOException e) {
+                log.debug("Balance feed consumer disconnected at offset {}", offset);
+            }
+            return;
+        }
+        // tailing is done by streamer thread, request thread is released right away
+        AsyncContext asyncContext = ctx.req.startAsync();
+        asyncContext.setTimeout(0);
+        ctx.res.flushBuffer();
+        streamer.subscribe(offset, asyncContext);
+    }
+}
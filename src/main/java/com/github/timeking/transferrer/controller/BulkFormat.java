@@ -0,0 +1,33 @@
+package com.github.timeking.transferrer.controller;
+
+public enum BulkFormat {
+    /**
+     * accountId,balance[,lastModified] per line, empty accountId means new random one,
+     * empty lastModified means current time
+     */
+    CSV("text/csv"),
+    /**
+     * one account json per line
+     */
+    NDJSON("application/x-ndjson");
+
+    private final String contentType;
+
+    BulkFormat(String contentType) {
+        this.contentType = contentType;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    /**
+     * @return format by its name or file extension, NDJSON by default
+     */
+    public static BulkFormat of(String name) {
+        if (name != null && (name.equalsIgnoreCase("csv") || name.toLowerCase().endsWith(".csv"))) {
+            return CSV;
+        }
+        return NDJSON;
+    }
+}
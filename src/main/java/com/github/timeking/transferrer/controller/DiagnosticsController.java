@@ -0,0 +1,19 @@
+package com.github.timeking.transferrer.controller;
+
+import com.github.timeking.transferrer.diagnostics.TransferTracer;
+import io.javalin.Context;
+import org.eclipse.jetty.http.HttpStatus;
+import org.jetbrains.annotations.NotNull;
+
+public class DiagnosticsController {
+    private final TransferTracer tracer;
+
+    public DiagnosticsController(TransferTracer tracer) {
+        this.tracer = tracer;
+    }
+
+    public void slowTransfers(@NotNull Context ctx) {
+        ctx.json(tracer.slowTransfers());
+        ctx.status(HttpStatus.OK_200);
+    }
+}
@@ -0,0 +1,48 @@
+package com.github.timeking.transferrer.controller;
+
+import com.github.timeking.transferrer.dto.TransferState;
+import com.github.timeking.transferrer.model.Account;
+
+/**
+ * Weak entity tags of account and transfer representations
+ */
+final class ETags {
+    static final String IF_NONE_MATCH = "If-None-Match";
+    static final String ETAG = "ETag";
+
+    private ETags() {
+    }
+
+    /**
+     * Version is read first, so tag could only be older than balance read after it, never newer
+     */
+    static String of(Account account) {
+        long version = account.getVersion();
+        return "W/\"" + account.getLastModified() + "-" + version + "\"";
+    }
+
+    static String of(TransferState state) {
+        return "W/\"" + state + "\"";
+    }
+
+    /**
+     * Weak comparison of tag with If-None-Match header value
+     */
+    static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        String opaqueTag = stripWeak(etag);
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*") || stripWeak(tag).equals(opaqueTag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String stripWeak(String tag) {
+        return tag.startsWith("W/") ? tag.substring(2) : tag;
+    }
+}
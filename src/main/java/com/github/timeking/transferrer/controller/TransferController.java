@@ -1,64 +1,128 @@
 package com.github.timeking.transferrer.controller;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.timeking.transferrer.diagnostics.TransferPhase;
+import com.github.timeking.transferrer.diagnostics.TransferTrace;
+import com.github.timeking.transferrer.diagnostics.TransferTracer;
 import com.github.timeking.transferrer.dto.TransferDto;
 import com.github.timeking.transferrer.dto.TransferState;
+import com.github.timeking.transferrer.scheduler.TimingWheelScheduler;
 import io.javalin.Context;
 import io.javalin.apibuilder.CrudHandler;
 import org.eclipse.jetty.http.HttpStatus;
 import org.jetbrains.annotations.NotNull;
 
+import java.io.ByteArrayInputStream;
+import java.time.Duration;
 import java.time.Instant;
 import java.util.Optional;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedQueue;
 
 public class TransferController implements CrudHandler {
+    private static final int TERMINAL_CACHE_SIZE = 10_000;
+    private static final Duration MAX_SCHEDULE_AHEAD = Duration.ofDays(366);
+
     private final AccountManager accountManager;
+    private final TimingWheelScheduler scheduler;
+    private final ObjectMapper objectMapper;
+    private final TransferTracer tracer;
 
     private final ConcurrentLinkedQueue<TransferDto> transferQueue = new ConcurrentLinkedQueue<>();
 
-    public TransferController(AccountManager accountManager) {
+    /**
+     * Serialized terminal transfers, they never change so repeated reads skip lookup and serialization.
+     * Evicted in insertion order, so cache hit is a plain concurrent read
+     */
+    private final ConcurrentHashMap<UUID, SerializedTransfer> terminalCache = new ConcurrentHashMap<>();
+    private final ConcurrentLinkedQueue<UUID> terminalCacheOrder = new ConcurrentLinkedQueue<>();
+
+    public TransferController(AccountManager accountManager, TimingWheelScheduler scheduler,
+                              ObjectMapper objectMapper, TransferTracer tracer) {
         this.accountManager = accountManager;
+        this.scheduler = scheduler;
+        this.objectMapper = objectMapper;
+        this.tracer = tracer;
     }
 
     @Override
     public void create(@NotNull Context ctx) {
+        TransferTrace trace = tracer.start();
         TransferDto transferDto = ctx.bodyAsClass(TransferDto.class);
-        if (transferDto.getAccountFrom() == null) {
-            ctx.status(HttpStatus.BAD_REQUEST_400);
-            return;
+        trace.mark(TransferPhase.PARSED);
+        if (hasLegs(transferDto)) {
+            if (transferDto.getLegs().stream().anyMatch(leg ->
+                    leg == null || leg.getAccountFrom() == null || leg.getAccountTo() == null)) {
+                ctx.status(HttpStatus.BAD_REQUEST_400);
+                return;
+            }
+        } else {
+            if (transferDto.getAccountFrom() == null) {
+                ctx.status(HttpStatus.BAD_REQUEST_400);
+                return;
+            }
+            if (transferDto.getAccountTo() == null) {
+                ctx.status(HttpStatus.BAD_REQUEST_400);
+                return;
+            }
         }
-        if (transferDto.getAccountTo() == null) {
+        Instant now = Instant.now();
+        if (transferDto.getExecuteAt() != null && transferDto.getExecuteAt().isAfter(now.plus(MAX_SCHEDULE_AHEAD))) {
             ctx.status(HttpStatus.BAD_REQUEST_400);
             return;
         }
-        transferDto.setDate(Instant.now());
+        transferDto.setDate(now);
         UUID transferId = UUID.randomUUID();
         transferDto.setTransferId(transferId);
-        transferDto.setState(TransferState.SUBMITTED);
-        transferQueue.offer(transferDto);
-        startTransfer(transferDto);
+        // state is set before transfer becomes visible by queue, so readers never see it without state
+        if (transferDto.getExecuteAt() != null && transferDto.getExecuteAt().isAfter(now)) {
+            transferDto.setState(TransferState.SCHEDULED);
+            transferQueue.offer(transferDto);
+            scheduler.schedule(transferDto.getExecuteAt().toEpochMilli(), () -> {
+                transferDto.setState(TransferState.SUBMITTED);
+                startTransfer(transferDto, trace);
+            });
+        } else {
+            transferDto.setState(TransferState.SUBMITTED);
+            transferQueue.offer(transferDto);
+            startTransfer(transferDto, trace);
+        }
         ctx.json(transferDto);
         ctx.status(HttpStatus.CREATED_201);
     }
 
-    private CompletableFuture<Void> startTransfer(TransferDto transferDto) {
-        return CompletableFuture.runAsync(() ->
-            accountManager.transfer(
-                    transferDto.getAccountFrom(),
-                    transferDto.getAccountTo(),
-                    transferDto.getAmount()
-            )
-        ).whenComplete((v, ex) -> {
+    private CompletableFuture<Void> startTransfer(TransferDto transferDto, TransferTrace trace) {
+        trace.mark(TransferPhase.QUEUED);
+        return CompletableFuture.runAsync(() -> {
+            trace.mark(TransferPhase.STARTED);
+            int attempts;
+            if (hasLegs(transferDto)) {
+                attempts = accountManager.transfer(transferDto.getLegs());
+            } else {
+                attempts = accountManager.transfer(
+                        transferDto.getAccountFrom(),
+                        transferDto.getAccountTo(),
+                        transferDto.getAmount()
+                );
+            }
+            trace.committed(attempts);
+        }).whenComplete((v, ex) -> {
             if (ex != null) {
                 transferDto.setState(TransferState.FAILED);
             } else {
                 transferDto.setState(TransferState.TRANSFERRED);
             }
+            tracer.finish(transferDto.getTransferId(), trace);
         });
     }
 
+    private static boolean hasLegs(TransferDto transferDto) {
+        return transferDto.getLegs() != null && !transferDto.getLegs().isEmpty();
+    }
+
     @Override
     public void getAll(@NotNull Context ctx) {
         ctx.json(transferQueue);
@@ -73,11 +137,69 @@ public class TransferController implements CrudHandler {
             ctx.status(HttpStatus.BAD_REQUEST_400);
             return;
         }
+        SerializedTransfer cached = terminalCache.get(transferId);
+        if (cached != null) {
+            respondTerminal(ctx, cached);
+            return;
+        }
         Optional<TransferDto> optTransfer = transferQueue.stream()
                 .filter(transferDto -> transferDto.getTransferId().equals(transferId))
                 .findAny();
         ctx.status(HttpStatus.NOT_FOUND_404);
-        optTransfer.ifPresent(transfer -> ctx.json(transfer).status(HttpStatus.OK_200));
+        optTransfer.ifPresent(transfer -> {
+            TransferState state = transfer.getState();
+            if (state.isTerminal()) {
+                SerializedTransfer serialized;
+                try {
+                    serialized = new SerializedTransfer(ETags.of(state), objectMapper.writeValueAsBytes(transfer));
+                } catch (JsonProcessingException e) {
+                    throw new IllegalStateException("Failed to serialize transfer " + transferId, e);
+                }
+                cacheTerminal(transferId, serialized);
+                respondTerminal(ctx, serialized);
+                return;
+            }
+            String etag = ETags.of(state);
+            ctx.header(ETags.ETAG, etag);
+            if (ETags.matches(ctx.header(ETags.IF_NONE_MATCH), etag)) {
+                ctx.status(HttpStatus.NOT_MODIFIED_304);
+                return;
+            }
+            ctx.json(transfer).status(HttpStatus.OK_200);
+        });
+    }
+
+    private void cacheTerminal(UUID transferId, SerializedTransfer serialized) {
+        if (terminalCache.putIfAbsent(transferId, serialized) != null) {
+            return;
+        }
+        terminalCacheOrder.offer(transferId);
+        while (terminalCache.size() > TERMINAL_CACHE_SIZE) {
+            UUID eldest = terminalCacheOrder.poll();
+            if (eldest == null) {
+                break;
+            }
+            terminalCache.remove(eldest);
+        }
+    }
+
+    private void respondTerminal(Context ctx, SerializedTransfer serialized) {
+        ctx.header(ETags.ETAG, serialized.etag);
+        if (ETags.matches(ctx.header(ETags.IF_NONE_MATCH), serialized.etag)) {
+            ctx.status(HttpStatus.NOT_MODIFIED_304);
+            return;
+        }
+        ctx.result(new ByteArrayInputStream(serialized.body)).status(HttpStatus.OK_200);
+    }
+
+    private static class SerializedTransfer {
+        private final String etag;
+        private final byte[] body;
+
+        SerializedTransfer(String etag, byte[] body) {
+            this.etag = etag;
+            this.body = body;
+        }
     }
 
     @Override
@@ -0,0 +1,10 @@
+package com.github.timeking.transferrer.diagnostics;
+
+public enum TransferPhase {
+    RECEIVED,
+    PARSED,
+    QUEUED,
+    STARTED,
+    COMMITTED,
+    COMPLETED
+}
@@ -0,0 +1,67 @@
+package com.github.timeking.transferrer.diagnostics;
+
+/**
+ * Phase timestamps of single transfer, phases are marked by different threads
+ * but always one after another, so no synchronization is needed
+ */
+public class TransferTrace {
+    /**
+     * Trace of not sampled transfer, ignores all marks
+     */
+    public static final TransferTrace NOT_SAMPLED = new TransferTrace(null);
+
+    private final long[] marks;
+    private int attempts;
+
+    private TransferTrace(long[] marks) {
+        this.marks = marks;
+    }
+
+    static TransferTrace received() {
+        TransferTrace trace = new TransferTrace(new long[TransferPhase.values().length]);
+        trace.mark(TransferPhase.RECEIVED);
+        return trace;
+    }
+
+    public boolean isSampled() {
+        return marks != null;
+    }
+
+    public void mark(TransferPhase phase) {
+        if (marks != null) {
+            marks[phase.ordinal()] = System.nanoTime();
+        }
+    }
+
+    public void committed(int attempts) {
+        if (marks != null) {
+            this.attempts = attempts;
+            mark(TransferPhase.COMMITTED);
+        }
+    }
+
+    public boolean isMarked(TransferPhase phase) {
+        return marks != null && marks[phase.ordinal()] != 0;
+    }
+
+    /**
+     * @return nanos between two phases, 0 if any of them is not marked
+     */
+    public long between(TransferPhase from, TransferPhase to) {
+        long start = marks[from.ordinal()];
+        long end = marks[to.ordinal()];
+        return start == 0 || end == 0 ? 0 : end - start;
+    }
+
+    public int getAttempts() {
+        return attempts;
+    }
+
+    /**
+     * @return time spent on transfer without waiting for its scheduled time
+     */
+    public long latencyNanos() {
+        return between(TransferPhase.RECEIVED, TransferPhase.PARSED)
+                + between(TransferPhase.QUEUED, TransferPhase.COMPLETED);
+    }
+}
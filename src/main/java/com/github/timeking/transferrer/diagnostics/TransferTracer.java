@@ -0,0 +1,68 @@
+package com.github.timeking.transferrer.diagnostics;
+
+import com.github.timeking.transferrer.dto.TransferTraceDto;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Samples transfer traces and keeps last slow ones in ring buffer
+ */
+public class TransferTracer {
+    private static final int RING_SIZE = 256;
+
+    private final double sampleRate;
+    private final long slowNanos;
+    private final AtomicReferenceArray<TransferTraceDto> ring = new AtomicReferenceArray<>(RING_SIZE);
+    private final AtomicLong sequence = new AtomicLong();
+
+    /**
+     * @param sampleRate share of transfers to trace, from 0 (none) to 1 (all)
+     * @param slowMillis latency from which transfer is kept as slow
+     */
+    public TransferTracer(double sampleRate, long slowMillis) {
+        this.sampleRate = sampleRate;
+        this.slowNanos = TimeUnit.MILLISECONDS.toNanos(slowMillis);
+    }
+
+    /**
+     * @return new trace with received mark or {@link TransferTrace#NOT_SAMPLED}
+     */
+    public TransferTrace start() {
+        if (sampleRate <= 0 || ThreadLocalRandom.current().nextDouble() >= sampleRate) {
+            return TransferTrace.NOT_SAMPLED;
+        }
+        return TransferTrace.received();
+    }
+
+    public void finish(UUID transferId, TransferTrace trace) {
+        if (!trace.isSampled()) {
+            return;
+        }
+        trace.mark(TransferPhase.COMPLETED);
+        if (trace.latencyNanos() < slowNanos) {
+            return;
+        }
+        ring.set((int) (sequence.getAndIncrement() % RING_SIZE), TransferTraceDto.from(transferId, trace));
+    }
+
+    /**
+     * @return last slow transfers, the newest first
+     */
+    public List<TransferTraceDto> slowTransfers() {
+        List<TransferTraceDto> traces = new ArrayList<>(RING_SIZE);
+        long last = sequence.get();
+        for (long i = last - 1; i >= 0 && i >= last - RING_SIZE; i--) {
+            TransferTraceDto trace = ring.get((int) (i % RING_SIZE));
+            if (trace != null) {
+                traces.add(trace);
+            }
+        }
+        return traces;
+    }
+}
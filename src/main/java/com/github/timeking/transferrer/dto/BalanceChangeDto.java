@@ -0,0 +1,20 @@
+package com.github.timeking.transferrer.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.Instant;
+import java.util.UUID;
+
+@Data
+@Builder
+public class BalanceChangeDto {
+    private long sequence;
+    private BalanceChangeType type;
+    private UUID accountId;
+    private int amount;
+    private int balance;
+    private long version;
+    private Instant date;
+
+}
@@ -0,0 +1,17 @@
+package com.github.timeking.transferrer.dto;
+
+public enum BalanceChangeType {
+    /**
+     * account is registered with its opening balance
+     */
+    CREATED,
+    /**
+     * balance is adjusted by committed transfer
+     */
+    ADJUSTED,
+    /**
+     * account is removed, has the highest version of account, no transfer adjusts it afterwards.
+     * ADJUSTED committed just before removal may still be published after it, with lower version
+     */
+    DELETED
+}
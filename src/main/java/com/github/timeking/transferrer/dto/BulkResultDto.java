@@ -0,0 +1,24 @@
+package com.github.timeking.transferrer.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class BulkResultDto {
+    private long rows;
+    private long rejected;
+    private long millis;
+    private long rowsPerSecond;
+
+    public static BulkResultDto of(long rows, long rejected, long nanos) {
+        long millis = nanos / 1_000_000;
+        return BulkResultDto.builder()
+                .rows(rows)
+                .rejected(rejected)
+                .millis(millis)
+                .rowsPerSecond(nanos == 0 ? rows : rows * 1_000_000_000L / nanos)
+                .build();
+    }
+
+}
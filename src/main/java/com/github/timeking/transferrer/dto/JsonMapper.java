@@ -0,0 +1,63 @@
+package com.github.timeking.transferrer.dto;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import com.fasterxml.jackson.datatype.jsr310.deser.InstantDeserializer;
+
+import java.io.IOException;
+import java.time.Instant;
+
+/**
+ * Object mapper of API and bulk files.
+ * Instants keep the original wire format {"epochSecond":...,"nano":...}, so existing clients
+ * of lastModified and date are not broken. On input ISO strings (e.g. executeAt) and
+ * epoch second numbers are accepted as well.
+ */
+public final class JsonMapper {
+
+    private JsonMapper() {
+    }
+
+    public static ObjectMapper create() {
+        return new ObjectMapper().registerModule(new SimpleModule("instant")
+                .addSerializer(Instant.class, new EpochInstantSerializer())
+                .addDeserializer(Instant.class, new LenientInstantDeserializer()));
+    }
+
+    private static class EpochInstantSerializer extends StdSerializer<Instant> {
+        EpochInstantSerializer() {
+            super(Instant.class);
+        }
+
+        @Override
+        public void serialize(Instant value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            gen.writeStartObject();
+            gen.writeNumberField("epochSecond", value.getEpochSecond());
+            gen.writeNumberField("nano", value.getNano());
+            gen.writeEndObject();
+        }
+    }
+
+    private static class LenientInstantDeserializer extends StdDeserializer<Instant> {
+        LenientInstantDeserializer() {
+            super(Instant.class);
+        }
+
+        @Override
+        public Instant deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+            if (p.getCurrentToken() == JsonToken.START_OBJECT) {
+                JsonNode node = p.getCodec().readTree(p);
+                return Instant.ofEpochSecond(node.path("epochSecond").asLong(), node.path("nano").asLong());
+            }
+            return InstantDeserializer.INSTANT.deserialize(p, ctxt);
+        }
+    }
+}
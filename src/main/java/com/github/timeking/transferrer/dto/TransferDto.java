@@ -4,6 +4,7 @@ import lombok.Builder;
 import lombok.Data;
 
 import java.time.Instant;
+import java.util.List;
 import java.util.UUID;
 
 @Data
@@ -15,5 +16,7 @@ public class TransferDto {
     private UUID accountTo;
     private int amount;
     private TransferState state;
+    private Instant executeAt;
+    private List<TransferLegDto> legs;
 
 }
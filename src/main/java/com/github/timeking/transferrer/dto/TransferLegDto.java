@@ -0,0 +1,15 @@
+package com.github.timeking.transferrer.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.UUID;
+
+@Data
+@Builder
+public class TransferLegDto {
+    private UUID accountFrom;
+    private UUID accountTo;
+    private int amount;
+
+}
@@ -1,7 +1,15 @@
 package com.github.timeking.transferrer.dto;
 
 public enum TransferState {
+    SCHEDULED,
     SUBMITTED,
     TRANSFERRED,
-    FAILED
+    FAILED;
+
+    /**
+     * @return true if transfer could not change anymore
+     */
+    public boolean isTerminal() {
+        return this == TRANSFERRED || this == FAILED;
+    }
 }
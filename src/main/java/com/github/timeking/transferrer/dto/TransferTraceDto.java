@@ -0,0 +1,44 @@
+package com.github.timeking.transferrer.dto;
+
+import com.github.timeking.transferrer.diagnostics.TransferPhase;
+import com.github.timeking.transferrer.diagnostics.TransferTrace;
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+@Data
+@Builder
+public class TransferTraceDto {
+    private UUID transferId;
+    private long latencyMicros;
+    private long parseMicros;
+    private long scheduledMicros;
+    private long queueMicros;
+    private long executeMicros;
+    private long completeMicros;
+    private int retries;
+    private boolean committed;
+
+    public static TransferTraceDto from(UUID transferId, TransferTrace trace) {
+        boolean committed = trace.isMarked(TransferPhase.COMMITTED);
+        TransferPhase executed = committed ? TransferPhase.COMMITTED : TransferPhase.COMPLETED;
+        return TransferTraceDto.builder()
+                .transferId(transferId)
+                .latencyMicros(micros(trace.latencyNanos()))
+                .parseMicros(micros(trace.between(TransferPhase.RECEIVED, TransferPhase.PARSED)))
+                .scheduledMicros(micros(trace.between(TransferPhase.PARSED, TransferPhase.QUEUED)))
+                .queueMicros(micros(trace.between(TransferPhase.QUEUED, TransferPhase.STARTED)))
+                .executeMicros(micros(trace.between(TransferPhase.STARTED, executed)))
+                .completeMicros(committed ? micros(trace.between(TransferPhase.COMMITTED, TransferPhase.COMPLETED)) : 0)
+                .retries(committed ? trace.getAttempts() - 1 : 0)
+                .committed(committed)
+                .build();
+    }
+
+    private static long micros(long nanos) {
+        return TimeUnit.NANOSECONDS.toMicros(nanos);
+    }
+
+}
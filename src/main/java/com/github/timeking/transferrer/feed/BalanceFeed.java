@@ -0,0 +1,101 @@
+package com.github.timeking.transferrer.feed;
+
+import com.github.timeking.transferrer.dto.BalanceChangeDto;
+import com.github.timeking.transferrer.dto.BalanceChangeType;
+import com.github.timeking.transferrer.model.BalanceListener;
+
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+
+/**
+ * Sequence numbered balance changes kept in bounded ring.
+ * Changes of different accounts committed concurrently may get sequence numbers
+ * out of commit order, account version tells which balance is the latest one.
+ */
+public class BalanceFeed {
+    private final int capacity;
+    private final AtomicReferenceArray<BalanceChangeDto> ring;
+    private final AtomicLong sequence = new AtomicLong();
+
+    private volatile Runnable onPublish = () -> { };
+
+    public BalanceFeed(int capacity) {
+        this.capacity = capacity;
+        this.ring = new AtomicReferenceArray<>(capacity);
+    }
+
+    /**
+     * @return listener publishing adjustments of given account
+     */
+    public BalanceListener listenerOf(UUID accountId) {
+        return (amount, balance, version, date) ->
+                publish(accountId, BalanceChangeType.ADJUSTED, amount, balance, version, date);
+    }
+
+    /**
+     * @param onPublish called on publishing thread after every change, should be cheap
+     */
+    public void onPublish(Runnable onPublish) {
+        this.onPublish = onPublish;
+    }
+
+    public long publish(UUID accountId, BalanceChangeType type, int amount, int balance, long version, long date) {
+        long seq = sequence.getAndIncrement();
+        ring.set(index(seq), BalanceChangeDto.builder()
+                .sequence(seq)
+                .type(type)
+                .accountId(accountId)
+                .amount(amount)
+                .balance(balance)
+                .version(version)
+                .date(Instant.ofEpochMilli(date))
+                .build());
+        onPublish.run();
+        return seq;
+    }
+
+    /**
+     * @return sequence of the next change
+     */
+    public long head() {
+        return sequence.get();
+    }
+
+    /**
+     * @return sequence of the oldest change still kept in ring
+     */
+    public long oldest() {
+        return Math.max(0, sequence.get() - capacity);
+    }
+
+    /**
+     * Reads published changes starting from offset, stops at the first one not published yet
+     * @return offset to continue from, or -1 if changes from offset are already overwritten
+     */
+    public long read(long from, int max, Consumer<BalanceChangeDto> consumer) {
+        if (from < oldest()) {
+            return -1;
+        }
+        long offset = from;
+        long head = sequence.get();
+        while (offset < head && offset - from < max) {
+            BalanceChangeDto change = ring.get(index(offset));
+            if (change == null || change.getSequence() < offset) {
+                break;
+            }
+            if (change.getSequence() > offset) {
+                return -1;
+            }
+            consumer.accept(change);
+            offset++;
+        }
+        return offset;
+    }
+
+    private int index(long seq) {
+        return (int) (seq % capacity);
+    }
+}
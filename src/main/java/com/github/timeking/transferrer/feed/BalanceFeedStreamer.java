@@ -0,0 +1,213 @@
+package com.github.timeking.transferrer.feed;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.servlet.AsyncContext;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Writes balance changes as NDJSON lines to tailing consumers from single thread,
+ * which is woken up by every published change. Consumers are held by async servlet
+ * contexts, so they do not occupy request threads while waiting for changes.
+ * Writes are non-blocking: consumer whose output is not ready is skipped until its
+ * write listener wakes the streamer up, so slow consumer does not stall the others.
+ */
+@Slf4j
+public class BalanceFeedStreamer implements AutoCloseable {
+    private static final int BATCH_SIZE = 1_000;
+    private static final long HEARTBEAT_MILLIS = 5_000;
+    private static final long IDLE_PARK_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final BalanceFeed feed;
+    private final ObjectMapper objectMapper;
+    private final Queue<Subscription> subscriptions = new ConcurrentLinkedQueue<>();
+    private final Thread streamer;
+    /**
+     * Serialized batch for single consumer, touched by streamer thread only
+     */
+    private final ByteArrayOutputStream batch = new ByteArrayOutputStream();
+
+    private volatile boolean running = true;
+
+    public BalanceFeedStreamer(BalanceFeed feed, ObjectMapper objectMapper) {
+        this.feed = feed;
+        this.objectMapper = objectMapper;
+        this.streamer = new Thread(this::run, "balance-feed");
+        this.streamer.setDaemon(true);
+        this.streamer.start();
+        feed.onPublish(() -> {
+            if (!subscriptions.isEmpty()) {
+                LockSupport.unpark(streamer);
+            }
+        });
+    }
+
+    /**
+     * Writes at most one batch of changes available from offset, without flushing
+     * @return offset to continue from, or -1 if changes from offset are already overwritten
+     */
+    public long writeAvailable(long offset, OutputStream out) throws IOException {
+        try {
+            return feed.read(offset, BATCH_SIZE, change -> {
+                try {
+                    out.write(objectMapper.writeValueAsBytes(change));
+                    out.write('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Starts tailing changes from offset to response of given async context,
+     * the context is completed when consumer falls behind, disconnects or streamer is closed
+     */
+    public void subscribe(long offset, AsyncContext asyncContext) throws IOException {
+        Subscription subscription = new Subscription(offset, asyncContext);
+        subscription.out.setWriteListener(new WriteListener() {
+            @Override
+            public void onWritePossible() {
+                LockSupport.unpark(streamer);
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                subscription.failed = true;
+                LockSupport.unpark(streamer);
+            }
+        });
+        subscriptions.add(subscription);
+        LockSupport.unpark(streamer);
+    }
+
+    private void run() {
+        while (running) {
+            boolean behind = false;
+            long now = System.currentTimeMillis();
+            Iterator<Subscription> iterator = subscriptions.iterator();
+            while (iterator.hasNext()) {
+                Subscription subscription = iterator.next();
+                try {
+                    if (subscription.failed) {
+                        throw new IOException("Write failed");
+                    }
+                    if (!subscription.ready()) {
+                        // write listener wakes streamer up once previous write is done
+                        if (subscription.offset < feed.oldest()) {
+                            log.info("Balance feed consumer fell behind at offset {}", subscription.offset);
+                            iterator.remove();
+                            subscription.complete();
+                        }
+                        continue;
+                    }
+                    long next = writeAvailable(subscription.offset, batch);
+                    if (next < 0) {
+                        batch.reset();
+                        log.info("Balance feed consumer fell behind at offset {}", subscription.offset);
+                        iterator.remove();
+                        subscription.complete();
+                    } else if (next != subscription.offset) {
+                        subscription.send(batch);
+                        behind |= next - subscription.offset == BATCH_SIZE;
+                        subscription.offset = next;
+                        subscription.lastWrite = now;
+                    } else if (now - subscription.lastWrite >= HEARTBEAT_MILLIS) {
+                        // empty line keeps connection alive and detects gone consumer
+                        batch.write('\n');
+                        subscription.send(batch);
+                        subscription.lastWrite = now;
+                    }
+                } catch (IOException | IllegalStateException e) {
+                    batch.reset();
+                    log.debug("Balance feed consumer disconnected at offset {}", subscription.offset);
+                    iterator.remove();
+                    subscription.complete();
+                }
+            }
+            if (!behind) {
+                LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+            }
+        }
+        Subscription subscription;
+        while ((subscription = subscriptions.poll()) != null) {
+            subscription.complete();
+        }
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        LockSupport.unpark(streamer);
+        try {
+            streamer.join(TimeUnit.SECONDS.toMillis(1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * State of single consumer, touched by streamer thread only
+     */
+    private static class Subscription {
+        private final AsyncContext asyncContext;
+        private final ServletOutputStream out;
+        private long offset;
+        private long lastWrite = System.currentTimeMillis();
+        private boolean unflushed;
+        private volatile boolean failed;
+
+        Subscription(long offset, AsyncContext asyncContext) throws IOException {
+            this.offset = offset;
+            this.asyncContext = asyncContext;
+            this.out = asyncContext.getResponse().getOutputStream();
+        }
+
+        /**
+         * Flushes previous write when possible
+         * @return true if output accepts next write without blocking
+         */
+        boolean ready() throws IOException {
+            if (!out.isReady()) {
+                return false;
+            }
+            if (unflushed) {
+                unflushed = false;
+                out.flush();
+                return out.isReady();
+            }
+            return true;
+        }
+
+        /**
+         * Writes whole batch by single non-blocking write and resets it
+         */
+        void send(ByteArrayOutputStream batch) throws IOException {
+            out.write(batch.toByteArray());
+            batch.reset();
+            unflushed = true;
+            ready();
+        }
+
+        void complete() {
+            try {
+                asyncContext.complete();
+            } catch (IllegalStateException e) {
+                log.debug("Balance feed response is already completed");
+            }
+        }
+    }
+}
@@ -2,17 +2,39 @@ package com.github.timeking.transferrer.model;
 
 import org.multiverse.api.StmUtils;
 import org.multiverse.api.callables.TxnCallable;
+import org.multiverse.api.callables.TxnIntCallable;
+import org.multiverse.api.callables.TxnLongCallable;
+import org.multiverse.api.references.TxnBoolean;
 import org.multiverse.api.references.TxnInteger;
 import org.multiverse.api.references.TxnLong;
 
+import java.util.List;
+
 public class Account {
 	//private final UUID id;
     private final TxnLong lastModified;
     private final TxnInteger balance;
+    private final TxnLong version;
+    private final TxnBoolean closed;
+    private final BalanceListener listener;
 
     public Account(int initialBalance) {
-        this.lastModified = StmUtils.newTxnLong(System.currentTimeMillis());
+        this(initialBalance, BalanceListener.NONE);
+    }
+
+    public Account(int initialBalance, BalanceListener listener) {
+        this(initialBalance, System.currentTimeMillis(), listener);
+    }
+
+    /**
+     * @param lastModified epoch millis of last modification, e.g. kept by imported account
+     */
+    public Account(int initialBalance, long lastModified, BalanceListener listener) {
+        this.lastModified = StmUtils.newTxnLong(lastModified);
         this.balance = StmUtils.newTxnInteger(initialBalance);
+        this.version = StmUtils.newTxnLong(0);
+        this.closed = StmUtils.newTxnBoolean(false);
+        this.listener = listener;
     }
 
     public Integer getBalance() {
@@ -23,26 +45,77 @@ public class Account {
         return lastModified.atomicGet();
     }
 
+    /**
+     * @return number of committed balance adjustments, plus one once account is closed
+     */
+    public long getVersion() {
+        return version.atomicGet();
+    }
+
+    /**
+     * Closes account, so no transfer can adjust it afterwards
+     * @return version of closing, higher than version of any committed adjustment
+     */
+    public long close() {
+        return StmUtils.atomic((TxnLongCallable) txn -> {
+            if (closed.get()) {
+                throw new IllegalStateException("Account is already closed");
+            }
+            closed.set(true);
+            lastModified.set(System.currentTimeMillis());
+            return version.incrementAndGet(1);
+        });
+    }
+
     void adjustBy(int amount) {
         adjustBy(amount, System.currentTimeMillis());
     }
 
     private void adjustBy(int amount, long date) {
         StmUtils.atomic(() -> {
+            if (closed.get()) {
+                throw new IllegalArgumentException("Account is closed");
+            }
             balance.increment(amount);
             lastModified.set(date);
+            version.increment();
 
-            if (balance.get() < 0) {
+            int newBalance = balance.get();
+            if (newBalance < 0) {
                 throw new IllegalArgumentException("Not enough money");
             }
+            if (listener != BalanceListener.NONE) {
+                long newVersion = version.get();
+                // runs once the outermost transaction is committed, is dropped on abort and retry
+                StmUtils.scheduleDeferredTask(() -> listener.balanceChanged(amount, newBalance, newVersion, date));
+            }
         });
     }
 
-    public void transferTo(Account other, int amount) {
-        StmUtils.atomic(() -> {
+    /**
+     * @return number of transaction attempts it took to commit
+     */
+    public int transferTo(Account other, int amount) {
+        return StmUtils.atomic((TxnIntCallable) txn -> {
             long date = System.currentTimeMillis();
             adjustBy(-amount, date);
             other.adjustBy(amount, date);
+            return txn.getAttempt();
+        });
+    }
+
+    /**
+     * Applies all legs in given order as one transaction, nothing is applied if any leg fails
+     * @return number of transaction attempts it took to commit
+     */
+    public static int transferAll(List<TransferLeg> legs) {
+        return StmUtils.atomic((TxnIntCallable) txn -> {
+            long date = System.currentTimeMillis();
+            for (TransferLeg leg : legs) {
+                leg.getFrom().adjustBy(-leg.getAmount(), date);
+                leg.getTo().adjustBy(leg.getAmount(), date);
+            }
+            return txn.getAttempt();
         });
     }
 
@@ -0,0 +1,10 @@
+package com.github.timeking.transferrer.model;
+
+/**
+ * Gets balance changes of account, called only after transaction is committed
+ */
+public interface BalanceListener {
+    BalanceListener NONE = (amount, balance, version, date) -> { };
+
+    void balanceChanged(int amount, int balance, long version, long date);
+}
@@ -0,0 +1,13 @@
+package com.github.timeking.transferrer.model;
+
+import lombok.Value;
+
+/**
+ * Single movement of money inside multi-leg transfer
+ */
+@Value
+public class TransferLeg {
+    private final Account from;
+    private final Account to;
+    private final int amount;
+}
@@ -0,0 +1,9 @@
+package com.github.timeking.transferrer.scheduler;
+
+import lombok.Value;
+
+@Value
+class TimerEntry {
+    private final long deadline;
+    private final Runnable task;
+}
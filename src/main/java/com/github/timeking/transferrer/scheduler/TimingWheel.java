@@ -0,0 +1,78 @@
+package com.github.timeking.transferrer.scheduler;
+
+import java.util.ArrayDeque;
+import java.util.function.Consumer;
+
+/**
+ * One level of hierarchical timing wheel.
+ * Entries too far in the future go to lazily created overflow wheel with coarser tick
+ * and cascade down while time goes on. Entry fires with tick precision, i.e. on the tick its deadline falls into.
+ * Not thread safe, should be driven by single thread.
+ */
+class TimingWheel {
+    /**
+     * Limit of wheel interval, leaves room for currentTime + interval not to overflow
+     */
+    private static final long MAX_INTERVAL = Long.MAX_VALUE / 4;
+
+    private final long tickMillis;
+    private final int wheelSize;
+    private final long interval;
+    private final ArrayDeque<TimerEntry>[] buckets;
+
+    private long currentTime;
+    private TimingWheel overflowWheel;
+
+    @SuppressWarnings("unchecked")
+    TimingWheel(long tickMillis, int wheelSize, long startMillis) {
+        this.tickMillis = tickMillis;
+        this.wheelSize = wheelSize;
+        this.interval = tickMillis * wheelSize;
+        this.buckets = new ArrayDeque[wheelSize];
+        for (int i = 0; i < wheelSize; i++) {
+            buckets[i] = new ArrayDeque<>();
+        }
+        this.currentTime = startMillis - (startMillis % tickMillis);
+    }
+
+    /**
+     * @return false if entry is already due and should be executed right away
+     */
+    boolean add(TimerEntry entry) {
+        long deadline = entry.getDeadline();
+        if (deadline < currentTime + tickMillis) {
+            return false;
+        }
+        if (deadline < currentTime + interval) {
+            buckets[(int) ((deadline / tickMillis) % wheelSize)].add(entry);
+            return true;
+        }
+        if (overflowWheel == null) {
+            if (interval > MAX_INTERVAL / wheelSize) {
+                // coarser level would overflow, entry waits in the farthest bucket and is reinserted when it comes round
+                buckets[(int) (((currentTime + interval - tickMillis) / tickMillis) % wheelSize)].add(entry);
+                return true;
+            }
+            overflowWheel = new TimingWheel(interval, wheelSize, currentTime);
+        }
+        return overflowWheel.add(entry);
+    }
+
+    /**
+     * Moves wheel up to given time, entries of passed buckets are handed to reinsert,
+     * which either executes them or puts them back to the finer wheel
+     */
+    void advanceTo(long timeMillis, Consumer<TimerEntry> reinsert) {
+        while (currentTime + tickMillis <= timeMillis) {
+            currentTime += tickMillis;
+            ArrayDeque<TimerEntry> bucket = buckets[(int) ((currentTime / tickMillis) % wheelSize)];
+            TimerEntry entry;
+            while ((entry = bucket.poll()) != null) {
+                reinsert.accept(entry);
+            }
+        }
+        if (overflowWheel != null) {
+            overflowWheel.advanceTo(timeMillis, reinsert);
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.github.timeking.transferrer.scheduler;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Releases delayed tasks to executor tick by tick. At most tickBudget due tasks are released
+ * per tick, the rest waits for the next ticks, so tasks due at the same time are spread
+ * instead of being fired by one batch.
+ */
+@Slf4j
+public class TimingWheelScheduler implements AutoCloseable {
+    private final long tickMillis;
+    private final int tickBudget;
+    private final Executor executor;
+    private final TimingWheel wheel;
+    private final Queue<TimerEntry> pending = new ConcurrentLinkedQueue<>();
+    /**
+     * Due tasks over budget of previous ticks, accessed by ticker thread only
+     */
+    private final ArrayDeque<Runnable> due = new ArrayDeque<>();
+    private final Thread ticker;
+
+    private volatile boolean running = true;
+
+    /**
+     * @param tickBudget max number of tasks released to executor per tick
+     */
+    public TimingWheelScheduler(long tickMillis, int wheelSize, int tickBudget, Executor executor) {
+        this.tickMillis = tickMillis;
+        this.tickBudget = tickBudget;
+        this.executor = executor;
+        this.wheel = new TimingWheel(tickMillis, wheelSize, System.currentTimeMillis());
+        this.ticker = new Thread(this::run, "transfer-scheduler");
+        this.ticker.setDaemon(true);
+        this.ticker.start();
+    }
+
+    /**
+     * Schedules task at given epoch millis, task which is already due is released on the next tick
+     */
+    public void schedule(long deadlineMillis, Runnable task) {
+        pending.offer(new TimerEntry(deadlineMillis, task));
+    }
+
+    private void run() {
+        long tickNanos = TimeUnit.MILLISECONDS.toNanos(tickMillis);
+        while (running) {
+            try {
+                tick();
+            } catch (RuntimeException e) {
+                log.error("Scheduler tick failed: " + e.getMessage(), e);
+            }
+            LockSupport.parkNanos(this, tickNanos);
+        }
+    }
+
+    private void tick() {
+        wheel.advanceTo(System.currentTimeMillis(), this::reinsert);
+        TimerEntry entry;
+        while ((entry = pending.poll()) != null) {
+            reinsert(entry);
+        }
+        Runnable task;
+        for (int i = 0; i < tickBudget && (task = due.poll()) != null; i++) {
+            dispatch(task);
+        }
+    }
+
+    private void reinsert(TimerEntry entry) {
+        try {
+            if (!wheel.add(entry)) {
+                due.add(entry.getTask());
+            }
+        } catch (RuntimeException e) {
+            log.error("Failed to schedule task at " + entry.getDeadline() + ": " + e.getMessage(), e);
+        }
+    }
+
+    private void dispatch(Runnable task) {
+        try {
+            executor.execute(task);
+        } catch (RejectedExecutionException e) {
+            log.error("Scheduled task is rejected: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        LockSupport.unpark(ticker);
+    }
+}
@@ -10,8 +10,12 @@ import io.restassured.response.ValidatableResponse;
 import io.restassured.specification.RequestSpecification;
 import org.eclipse.jetty.http.HttpStatus;
 import org.hamcrest.Matchers;
+import org.junit.Assert;
 import org.junit.Test;
 
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.UUID;
 
 import static io.restassured.RestAssured.given;
@@ -43,6 +47,28 @@ public class AccountITs {
                 .statusCode(Matchers.equalTo(HttpStatus.OK_200));
     }
 
+    @Test
+    public void givenAccountETag_whenGetUnchanged_thenNotModified() {
+        String accountId = createAccount(10);
+
+        String etag = given(requestSpec)
+                .pathParam("id", accountId)
+            .when()
+                .get(EndPoints.ACCOUNTS)
+            .then()
+                .header("ETag", Matchers.notNullValue())
+                .statusCode(Matchers.equalTo(HttpStatus.OK_200))
+                .extract().header("ETag");
+
+        given(requestSpec)
+                .pathParam("id", accountId)
+                .header("If-None-Match", etag)
+            .when()
+                .get(EndPoints.ACCOUNTS)
+            .then()
+                .statusCode(Matchers.equalTo(HttpStatus.NOT_MODIFIED_304));
+    }
+
     @Test
     public void givenIllegalAccountId_whenGetAccount_thenBadRequest() {
         ValidatableResponse response = given(requestSpec)
@@ -157,6 +183,65 @@ public class AccountITs {
         checkAccountBalance(accountTo, 100);
     }
 
+    @Test
+    public void givenFutureExecuteAt_whenCreateTransfer_thenScheduledAndTransferredLater() throws InterruptedException {
+        UUID accountFrom = UUID.fromString(createAccount(10));
+        UUID accountTo = UUID.fromString(createAccount(100));
+        Map<String, Object> transfer = new HashMap<>();
+        transfer.put("accountFrom", accountFrom);
+        transfer.put("accountTo", accountTo);
+        transfer.put("amount", 10);
+        transfer.put("executeAt", Instant.now().plusSeconds(1).toString());
+
+        String transferId = given(requestSpec)
+                .pathParam("id", "")
+            .when()
+                .body(transfer)
+                .post(EndPoints.TRANSFERS)
+            .then()
+                .body("state", Matchers.equalTo(TransferState.SCHEDULED.toString()))
+                .body("executeAt", Matchers.notNullValue())
+                .statusCode(HttpStatus.CREATED_201)
+                .extract().path("transferId");
+
+        checkAccountBalance(accountFrom, 10);
+
+        String state = TransferState.SCHEDULED.toString();
+        for (int i = 0; i < 50 && !state.equals(TransferState.TRANSFERRED.toString()); i++) {
+            Thread.sleep(100);
+            state = given(requestSpec)
+                    .pathParam("id", transferId)
+                .when()
+                    .get(EndPoints.TRANSFERS)
+                .then()
+                    .statusCode(HttpStatus.OK_200)
+                    .extract().path("state");
+        }
+
+        Assert.assertEquals(TransferState.TRANSFERRED.toString(), state);
+        checkAccountBalance(accountFrom, 0);
+        checkAccountBalance(accountTo, 110);
+    }
+
+    @Test
+    public void givenTooFarExecuteAt_whenCreateTransfer_thenBadRequest() {
+        UUID accountFrom = UUID.fromString(createAccount(10));
+        UUID accountTo = UUID.fromString(createAccount(100));
+        Map<String, Object> transfer = new HashMap<>();
+        transfer.put("accountFrom", accountFrom);
+        transfer.put("accountTo", accountTo);
+        transfer.put("amount", 10);
+        transfer.put("executeAt", "+100000000-01-01T00:00:00Z");
+
+        given(requestSpec)
+                .pathParam("id", "")
+            .when()
+                .body(transfer)
+                .post(EndPoints.TRANSFERS)
+            .then()
+                .statusCode(HttpStatus.BAD_REQUEST_400);
+    }
+
     private void checkAccountBalance(UUID accountId, Integer expectedBalance) {
         ValidatableResponse response = given(requestSpec)
                 .pathParam("id", accountId)
@@ -0,0 +1,82 @@
+package com.github.timeking.transferrer.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.timeking.transferrer.dto.BulkResultDto;
+import com.github.timeking.transferrer.dto.JsonMapper;
+import org.junit.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.time.Instant;
+import java.util.UUID;
+
+import static org.assertj.core.api.Java6Assertions.assertThat;
+
+public class AccountBulkControllerTest {
+    private final ObjectMapper objectMapper = JsonMapper.create();
+    private final AccountManager accountManager = new AccountManager();
+    private final AccountBulkController controller = new AccountBulkController(accountManager, objectMapper);
+
+    @Test
+    public void givenCsv_whenImport_thenShouldRegisterAccountsAndRejectBrokenRows() throws IOException {
+        // given
+        UUID accountId = UUID.randomUUID();
+        String csv = "accountId,balance,lastModified\n"
+                + accountId + ",10,2018-11-01T10:00:00Z\n"
+                + ",20\n"
+                + "broken,30\n"
+                + accountId + ",40\n";
+
+        // when
+        BulkResultDto result = controller.importFrom(new BufferedReader(new StringReader(csv)), BulkFormat.CSV);
+
+        // then
+        assertThat(result.getRows()).isEqualTo(2);
+        assertThat(result.getRejected()).isEqualTo(2);
+        assertThat(accountManager.list()).hasSize(2);
+        assertThat(accountManager.get(accountId).get().getBalance()).isEqualTo(10);
+        assertThat(accountManager.get(accountId).get().getLastModified())
+                .isEqualTo(Instant.parse("2018-11-01T10:00:00Z").toEpochMilli());
+    }
+
+    @Test
+    public void givenNullNdjsonRow_whenImport_thenShouldRejectOnlyThatRow() throws IOException {
+        // given
+        String ndjson = "null\n{\"balance\":3}\n";
+
+        // when
+        BulkResultDto result = controller.importFrom(new BufferedReader(new StringReader(ndjson)), BulkFormat.NDJSON);
+
+        // then
+        assertThat(result.getRows()).isEqualTo(1);
+        assertThat(result.getRejected()).isEqualTo(1);
+        assertThat(accountManager.list().values()).extracting(account -> account.getBalance()).containsExactly(3);
+    }
+
+    @Test
+    public void givenAccounts_whenExportAndImportNdjson_thenShouldKeepBalances() throws IOException {
+        // given
+        UUID first = accountManager.register(10);
+        UUID second = accountManager.register(20);
+        StringWriter writer = new StringWriter();
+
+        // when
+        BulkResultDto exported = controller.exportTo(writer, BulkFormat.NDJSON);
+        AccountManager otherManager = new AccountManager(2);
+        BulkResultDto imported = new AccountBulkController(otherManager, objectMapper)
+                .importFrom(new BufferedReader(new StringReader(writer.toString())), BulkFormat.NDJSON);
+
+        // then
+        assertThat(exported.getRows()).isEqualTo(2);
+        assertThat(writer.toString()).endsWith("# rows=2 millis=" + exported.getMillis()
+                + " rowsPerSecond=" + exported.getRowsPerSecond() + "\n");
+        assertThat(imported.getRows()).isEqualTo(2);
+        assertThat(imported.getRejected()).isEqualTo(0);
+        assertThat(otherManager.get(first).get().getBalance()).isEqualTo(10);
+        assertThat(otherManager.get(second).get().getBalance()).isEqualTo(20);
+        assertThat(otherManager.get(first).get().getLastModified())
+                .isEqualTo(accountManager.get(first).get().getLastModified());
+    }
+}
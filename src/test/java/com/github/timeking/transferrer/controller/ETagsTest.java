@@ -0,0 +1,33 @@
+package com.github.timeking.transferrer.controller;
+
+import com.github.timeking.transferrer.model.Account;
+import org.junit.Test;
+
+import static org.assertj.core.api.Java6Assertions.assertThat;
+
+public class ETagsTest {
+
+    @Test
+    public void givenAccount_whenTransferred_thenShouldChangeTag() {
+        // given
+        Account a = new Account(10);
+        Account b = new Account(10);
+        String before = ETags.of(a);
+
+        // when
+        a.transferTo(b, 5);
+
+        // then
+        assertThat(ETags.of(a)).isNotEqualTo(before);
+        assertThat(ETags.matches(before, ETags.of(a))).isFalse();
+    }
+
+    @Test
+    public void givenIfNoneMatchList_whenMatch_thenShouldCompareWeakly() {
+        assertThat(ETags.matches("\"1-2\", W/\"3-4\"", "W/\"3-4\"")).isTrue();
+        assertThat(ETags.matches("\"3-4\"", "W/\"3-4\"")).isTrue();
+        assertThat(ETags.matches("*", "W/\"3-4\"")).isTrue();
+        assertThat(ETags.matches("W/\"3-5\"", "W/\"3-4\"")).isFalse();
+        assertThat(ETags.matches(null, "W/\"3-4\"")).isFalse();
+    }
+}
@@ -0,0 +1,69 @@
+package com.github.timeking.transferrer.diagnostics;
+
+import com.github.timeking.transferrer.dto.TransferTraceDto;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Java6Assertions.assertThat;
+
+public class TransferTracerTest {
+
+    @Test
+    public void givenZeroSampleRate_whenStart_thenShouldNotSample() {
+        // given
+        TransferTracer tracer = new TransferTracer(0, 0);
+
+        // when
+        TransferTrace trace = tracer.start();
+        tracer.finish(UUID.randomUUID(), trace);
+
+        // then
+        assertThat(trace.isSampled()).isFalse();
+        assertThat(tracer.slowTransfers()).isEmpty();
+    }
+
+    @Test
+    public void givenCommittedTransfers_whenFinish_thenShouldKeepNewestFirst() {
+        // given
+        TransferTracer tracer = new TransferTracer(1, 0);
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+
+        // when
+        trace(tracer, first, 1);
+        trace(tracer, second, 3);
+
+        // then
+        List<TransferTraceDto> slowTransfers = tracer.slowTransfers();
+        assertThat(slowTransfers).hasSize(2);
+        assertThat(slowTransfers.get(0).getTransferId()).isEqualTo(second);
+        assertThat(slowTransfers.get(0).getRetries()).isEqualTo(2);
+        assertThat(slowTransfers.get(0).isCommitted()).isTrue();
+        assertThat(slowTransfers.get(1).getTransferId()).isEqualTo(first);
+    }
+
+    @Test
+    public void givenManyTransfers_whenFinish_thenShouldKeepOnlyRingSize() {
+        // given
+        TransferTracer tracer = new TransferTracer(1, 0);
+
+        // when
+        for (int i = 0; i < 1000; i++) {
+            trace(tracer, UUID.randomUUID(), 1);
+        }
+
+        // then
+        assertThat(tracer.slowTransfers()).hasSize(256);
+    }
+
+    private static void trace(TransferTracer tracer, UUID transferId, int attempts) {
+        TransferTrace trace = tracer.start();
+        trace.mark(TransferPhase.PARSED);
+        trace.mark(TransferPhase.QUEUED);
+        trace.mark(TransferPhase.STARTED);
+        trace.committed(attempts);
+        tracer.finish(transferId, trace);
+    }
+}
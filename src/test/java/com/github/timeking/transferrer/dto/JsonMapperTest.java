@@ -0,0 +1,33 @@
+package com.github.timeking.transferrer.dto;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.time.Instant;
+
+import static org.assertj.core.api.Java6Assertions.assertThat;
+
+public class JsonMapperTest {
+    private final ObjectMapper objectMapper = JsonMapper.create();
+
+    @Test
+    public void givenInstant_whenSerialize_thenShouldKeepEpochSecondAndNanoObject() throws IOException {
+        // when
+        String json = objectMapper.writeValueAsString(Instant.ofEpochSecond(1540000000L, 5));
+
+        // then
+        assertThat(json).isEqualTo("{\"epochSecond\":1540000000,\"nano\":5}");
+    }
+
+    @Test
+    public void givenIsoStringOrObject_whenDeserialize_thenShouldReadSameInstant() throws IOException {
+        // given
+        Instant expected = Instant.parse("2018-10-20T01:46:40Z");
+
+        // when / then
+        assertThat(objectMapper.readValue("\"2018-10-20T01:46:40Z\"", Instant.class)).isEqualTo(expected);
+        assertThat(objectMapper.readValue("{\"epochSecond\":1540000000,\"nano\":0}", Instant.class)).isEqualTo(expected);
+        assertThat(objectMapper.readValue("1540000000", Instant.class)).isEqualTo(expected);
+    }
+}
@@ -0,0 +1,39 @@
+package com.github.timeking.transferrer.feed;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.timeking.transferrer.dto.BalanceChangeType;
+import com.github.timeking.transferrer.dto.JsonMapper;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+import static org.assertj.core.api.Java6Assertions.assertThat;
+
+public class BalanceFeedStreamerTest {
+    private final ObjectMapper objectMapper = JsonMapper.create();
+
+    @Test
+    public void givenPublishedChanges_whenWriteAvailable_thenShouldWriteNdjsonLines() throws IOException {
+        // given
+        BalanceFeed feed = new BalanceFeed(16);
+        UUID accountId = UUID.randomUUID();
+        feed.publish(accountId, BalanceChangeType.CREATED, 5, 5, 0, System.currentTimeMillis());
+        feed.publish(accountId, BalanceChangeType.ADJUSTED, -2, 3, 1, System.currentTimeMillis());
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // when
+        long next;
+        try (BalanceFeedStreamer streamer = new BalanceFeedStreamer(feed, objectMapper)) {
+            next = streamer.writeAvailable(1, out);
+        }
+
+        // then
+        String[] lines = new String(out.toByteArray(), StandardCharsets.UTF_8).split("\n");
+        assertThat(next).isEqualTo(2);
+        assertThat(lines).hasSize(1);
+        assertThat(lines[0]).contains("\"sequence\":1", "\"type\":\"ADJUSTED\"", "\"balance\":3");
+    }
+}
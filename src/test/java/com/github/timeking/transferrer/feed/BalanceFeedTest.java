@@ -0,0 +1,96 @@
+package com.github.timeking.transferrer.feed;
+
+import com.github.timeking.transferrer.controller.AccountManager;
+import com.github.timeking.transferrer.dto.BalanceChangeDto;
+import com.github.timeking.transferrer.dto.BalanceChangeType;
+import com.github.timeking.transferrer.model.Account;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Java6Assertions.assertThat;
+
+public class BalanceFeedTest {
+
+    @Test
+    public void givenTransfer_whenCommitted_thenShouldPublishBothChanges() {
+        // given
+        BalanceFeed feed = new BalanceFeed(16);
+        UUID fromId = UUID.randomUUID();
+        UUID toId = UUID.randomUUID();
+        Account from = new Account(10, feed.listenerOf(fromId));
+        Account to = new Account(0, feed.listenerOf(toId));
+        List<BalanceChangeDto> changes = new ArrayList<>();
+
+        // when
+        from.transferTo(to, 4);
+        long next = feed.read(0, 100, changes::add);
+
+        // then
+        assertThat(next).isEqualTo(2);
+        assertThat(changes).hasSize(2);
+        assertThat(changes.get(0).getAccountId()).isEqualTo(fromId);
+        assertThat(changes.get(0).getBalance()).isEqualTo(6);
+        assertThat(changes.get(0).getAmount()).isEqualTo(-4);
+        assertThat(changes.get(1).getAccountId()).isEqualTo(toId);
+        assertThat(changes.get(1).getBalance()).isEqualTo(4);
+    }
+
+    @Test
+    public void givenFailedTransfer_whenRolledBack_thenShouldNotPublish() {
+        // given
+        BalanceFeed feed = new BalanceFeed(16);
+        Account from = new Account(10, feed.listenerOf(UUID.randomUUID()));
+        Account to = new Account(0, feed.listenerOf(UUID.randomUUID()));
+
+        // when
+        try {
+            from.transferTo(to, 20);
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+
+        // then
+        assertThat(feed.head()).isEqualTo(0);
+    }
+
+    @Test
+    public void givenOverwrittenChanges_whenRead_thenShouldReportGone() {
+        // given
+        BalanceFeed feed = new BalanceFeed(4);
+        UUID accountId = UUID.randomUUID();
+        for (int i = 0; i < 10; i++) {
+            feed.publish(accountId, BalanceChangeType.ADJUSTED, 1, i, i, System.currentTimeMillis());
+        }
+        List<BalanceChangeDto> changes = new ArrayList<>();
+
+        // when / then
+        assertThat(feed.read(5, 100, changes::add)).isEqualTo(-1);
+        assertThat(feed.oldest()).isEqualTo(6);
+        assertThat(feed.read(6, 2, changes::add)).isEqualTo(8);
+        assertThat(changes).extracting(BalanceChangeDto::getSequence).containsExactly(6L, 7L);
+    }
+
+    @Test
+    public void givenAccountManager_whenRegisterAndDelete_thenShouldPublishCreatedAndDeleted() {
+        // given
+        BalanceFeed feed = new BalanceFeed(16);
+        AccountManager accountManager = new AccountManager(16, feed);
+        List<BalanceChangeDto> changes = new ArrayList<>();
+
+        // when
+        UUID accountId = accountManager.register(7);
+        accountManager.register(accountId, 8);
+        accountManager.delete(accountId);
+        accountManager.delete(accountId);
+        feed.read(0, 100, changes::add);
+
+        // then
+        assertThat(changes).extracting(BalanceChangeDto::getType)
+                .containsExactly(BalanceChangeType.CREATED, BalanceChangeType.DELETED);
+        assertThat(changes).extracting(BalanceChangeDto::getBalance).containsExactly(7, 7);
+        assertThat(changes).extracting(BalanceChangeDto::getVersion).containsExactly(0L, 1L);
+    }
+}
@@ -4,6 +4,7 @@ import com.github.timeking.transferrer.model.Account;
 import lombok.extern.slf4j.Slf4j;
 import org.junit.Test;
 
+import java.util.Arrays;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
@@ -37,6 +38,30 @@ public class AccountTest {
         a.adjustBy(-11);
     }
 
+    @Test
+    public void givenClosedAccount_whenTransfer_thenShouldThrowAndKeepBalances() {
+        // given
+        Account a = new Account(10);
+        Account b = new Account(10);
+        a.adjustBy(-1);
+        long closedVersion = b.close();
+
+        // when
+        boolean thrown = false;
+        try {
+            a.transferTo(b, 5);
+        } catch (IllegalArgumentException e) {
+            thrown = true;
+        }
+
+        // then
+        assertTrue(thrown);
+        assertThat(closedVersion).isEqualTo(1);
+        assertThat(a.getBalance()).isEqualTo(9);
+        assertThat(b.getBalance()).isEqualTo(10);
+        assertThat(b.getVersion()).isEqualTo(closedVersion);
+    }
+
     @Test
     public void givenTwoThreads_whenBothApplyOperation_thenShouldThrow() throws InterruptedException {
         // given
@@ -188,4 +213,46 @@ public class AccountTest {
         assertThat(c.getBalance()).isEqualTo(11);
     }
 
-}
\ No newline at end of file
+    @Test
+    public void givenThreeAccounts_whenTransferAllLegs_thenShouldApplyInOrder() {
+        // given
+        Account a = new Account(10);
+        Account b = new Account(0);
+        Account c = new Account(0);
+
+        // when
+        Account.transferAll(Arrays.asList(
+                new TransferLeg(a, b, 10),
+                new TransferLeg(b, c, 7)
+        ));
+
+        // then
+        assertThat(a.getBalance()).isEqualTo(0);
+        assertThat(b.getBalance()).isEqualTo(3);
+        assertThat(c.getBalance()).isEqualTo(7);
+    }
+
+    @Test
+    public void givenThreeAccounts_whenLastLegFails_thenShouldRollbackAllLegs() {
+        // given
+        Account a = new Account(10);
+        Account b = new Account(0);
+        Account c = new Account(0);
+
+        // when
+        try {
+            Account.transferAll(Arrays.asList(
+                    new TransferLeg(a, b, 10),
+                    new TransferLeg(b, c, 20)
+            ));
+        } catch (IllegalArgumentException e) {
+            log.info("Failed to transfer money: " + e.getMessage());
+        }
+
+        // then
+        assertThat(a.getBalance()).isEqualTo(10);
+        assertThat(b.getBalance()).isEqualTo(0);
+        assertThat(c.getBalance()).isEqualTo(0);
+    }
+
+}
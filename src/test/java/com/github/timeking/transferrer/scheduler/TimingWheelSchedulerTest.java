@@ -0,0 +1,52 @@
+package com.github.timeking.transferrer.scheduler;
+
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Java6Assertions.assertThat;
+
+public class TimingWheelSchedulerTest {
+
+    @Test
+    public void givenTasksDueAtSameTime_whenReleased_thenShouldBeSpreadByTickBudget() throws InterruptedException {
+        // given
+        int tasks = 100;
+        List<Long> releasedAt = new CopyOnWriteArrayList<>();
+        CountDownLatch done = new CountDownLatch(tasks);
+        long deadline = System.currentTimeMillis() + 50;
+
+        // when
+        try (TimingWheelScheduler scheduler = new TimingWheelScheduler(10, 64, 10, task -> {
+            releasedAt.add(System.nanoTime());
+            task.run();
+        })) {
+            for (int i = 0; i < tasks; i++) {
+                scheduler.schedule(deadline, done::countDown);
+            }
+            assertThat(done.await(5, TimeUnit.SECONDS)).isTrue();
+        }
+
+        // then
+        // 100 tasks by 10 per tick take at least 9 ticks of 10 ms after the first release
+        long spreadMillis = TimeUnit.NANOSECONDS.toMillis(releasedAt.get(tasks - 1) - releasedAt.get(0));
+        assertThat(spreadMillis).isGreaterThanOrEqualTo(50);
+    }
+
+    @Test
+    public void givenPassedDeadline_whenSchedule_thenShouldReleaseOnNextTick() throws InterruptedException {
+        // given
+        CountDownLatch done = new CountDownLatch(1);
+
+        // when
+        try (TimingWheelScheduler scheduler = new TimingWheelScheduler(10, 64, 10, Runnable::run)) {
+            scheduler.schedule(System.currentTimeMillis() - 1000, done::countDown);
+
+            // then
+            assertThat(done.await(1, TimeUnit.SECONDS)).isTrue();
+        }
+    }
+}
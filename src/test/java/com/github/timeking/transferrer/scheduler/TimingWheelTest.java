@@ -0,0 +1,89 @@
+package com.github.timeking.transferrer.scheduler;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Java6Assertions.assertThat;
+
+public class TimingWheelTest {
+    private final List<Long> fired = new ArrayList<>();
+    private final TimingWheel wheel = new TimingWheel(10, 8, 0);
+
+    private void reinsert(TimerEntry entry) {
+        if (!wheel.add(entry)) {
+            fired.add(entry.getDeadline());
+        }
+    }
+
+    private static TimerEntry entry(long deadline) {
+        return new TimerEntry(deadline, () -> { });
+    }
+
+    @Test
+    public void givenDueEntry_whenAdd_thenShouldBeRejected() {
+        // when / then
+        assertThat(wheel.add(entry(5))).isFalse();
+        assertThat(wheel.add(entry(15))).isTrue();
+    }
+
+    @Test
+    public void givenEntries_whenAdvance_thenShouldFireOnlyDueOnes() {
+        // given
+        wheel.add(entry(15));
+        wheel.add(entry(45));
+
+        // when
+        wheel.advanceTo(20, this::reinsert);
+
+        // then
+        assertThat(fired).containsExactly(15L);
+
+        // and
+        wheel.advanceTo(50, this::reinsert);
+
+        // then
+        assertThat(fired).containsExactly(15L, 45L);
+    }
+
+    @Test
+    public void givenFarEntries_whenAdvance_thenShouldCascadeFromOverflowWheels() {
+        // given
+        wheel.add(entry(1005));
+        wheel.add(entry(95));
+        wheel.add(entry(650));
+
+        // when
+        wheel.advanceTo(640, this::reinsert);
+
+        // then
+        assertThat(fired).containsExactly(95L);
+
+        // and
+        wheel.advanceTo(990, this::reinsert);
+
+        // then
+        assertThat(fired).containsExactly(95L, 650L);
+
+        // and
+        wheel.advanceTo(1000, this::reinsert);
+
+        // then
+        assertThat(fired).containsExactly(95L, 650L, 1005L);
+    }
+
+    @Test
+    public void givenDeadlineBeyondDeepestWheel_whenAdd_thenShouldKeepItWithoutOverflow() {
+        // given
+        TimerEntry far = entry(Long.MAX_VALUE - 1);
+
+        // when
+        boolean added = wheel.add(far);
+        wheel.advanceTo(100_000, this::reinsert);
+
+        // then
+        assertThat(added).isTrue();
+        assertThat(fired).isEmpty();
+    }
+}